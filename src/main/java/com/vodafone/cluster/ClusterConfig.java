@@ -0,0 +1,24 @@
+package com.vodafone.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Active with the "cluster" profile (cluster.enabled=true). Caching is only switched on
+// here, so a single node keeps reading straight from the database and opens no socket.
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterConfig
+{
+    @Bean
+    public CacheManager cacheManager(InvalidationBus bus,
+                                     @Value("${cluster.cache.spec:maximumSize=10000,expireAfterWrite=60s}") String cacheSpec) {
+        ClusteredCacheManager cacheManager = new ClusteredCacheManager(bus);
+        cacheManager.setCacheSpecification(cacheSpec);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,80 @@
+package com.vodafone.cluster;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Node-local cache whose evictions are also sent to the other nodes.
+// Evictions are applied again, and broadcast, once the surrounding transaction
+// commits, so no node can keep the old row it reloaded before the write was visible.
+// The entry expiry set on the cache manager is the backstop for a lost datagram.
+public class ClusteredCache extends CaffeineCache
+{
+    private final InvalidationBus bus;
+
+    public ClusteredCache(String name, Cache<Object, Object> cache, boolean allowNullValues, InvalidationBus bus) {
+        super(name, cache, allowNullValues);
+        this.bus = bus;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        afterCommit(() -> {
+            super.evict(key);
+            bus.publish(getName(), key);
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        afterCommit(() -> {
+            super.evict(key);
+            bus.publish(getName(), key);
+        });
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        afterCommit(() -> {
+            super.clear();
+            bus.publish(getName(), null);
+        });
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        afterCommit(() -> {
+            super.invalidate();
+            bus.publish(getName(), null);
+        });
+        return notEmpty;
+    }
+
+    // Keys arrive as strings over the wire, so match them against the local keys' string form.
+    void evictLocally(String key) {
+        if (key == null)
+            super.invalidate();
+        else
+            getNativeCache().asMap().keySet().removeIf(localKey -> key.equals(String.valueOf(localKey)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
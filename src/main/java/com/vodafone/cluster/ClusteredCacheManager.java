@@ -0,0 +1,26 @@
+package com.vodafone.cluster;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+public class ClusteredCacheManager extends CaffeineCacheManager implements InvalidationBus.Listener
+{
+    private final InvalidationBus bus;
+
+    public ClusteredCacheManager(InvalidationBus bus) {
+        this.bus = bus;
+        bus.subscribe(this);
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new ClusteredCache(name, cache, isAllowNullValues(), bus);
+    }
+
+    @Override
+    public void onInvalidation(String cacheName, String key) {
+        Cache cache = getCache(cacheName);
+        if (cache instanceof ClusteredCache)
+            ((ClusteredCache) cache).evictLocally(key);
+    }
+}
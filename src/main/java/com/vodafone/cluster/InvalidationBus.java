@@ -0,0 +1,128 @@
+package com.vodafone.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Broadcasts cache invalidations to the other nodes over UDP multicast.
+// Message format: "<nodeId>|<cacheName>|<key>", an empty key clears the whole cache.
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class InvalidationBus implements InitializingBean, DisposableBean
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvalidationBus.class);
+    private static final String SEPARATOR = "|";
+    private static final int MAX_MESSAGE_SIZE = 1024;
+
+    public interface Listener {
+        void onInvalidation(String cacheName, String key);
+    }
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Value("${cluster.multicast.group:230.0.0.1}")
+    private String groupAddress;
+
+    @Value("${cluster.multicast.port:4446}")
+    private int port;
+
+    @Value("${cluster.multicast.ttl:0}")
+    private int timeToLive;
+
+    // Interface the group is joined on; blank means the loopback interface, whatever its name.
+    @Value("${cluster.multicast.interface:}")
+    private String interfaceName;
+
+    private InetAddress group;
+    private MulticastSocket socket;
+    private Thread receiver;
+    private volatile boolean running;
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        group = InetAddress.getByName(groupAddress);
+        NetworkInterface networkInterface = interfaceName.isBlank()
+                ? NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress())
+                : NetworkInterface.getByName(interfaceName);
+        if (networkInterface == null)
+            throw new IllegalStateException(String.format("Network interface '%s' was not found",
+                    interfaceName.isBlank() ? InetAddress.getLoopbackAddress() : interfaceName));
+
+        socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        socket.setNetworkInterface(networkInterface);
+        socket.joinGroup(new InetSocketAddress(group, port), networkInterface);
+
+        running = true;
+        receiver = new Thread(this::receive, "invalidation-bus");
+        receiver.setDaemon(true);
+        receiver.start();
+        LOGGER.info("Node {} joined invalidation group {}:{} on {}", nodeId, groupAddress, port,
+                networkInterface.getName());
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (socket != null)
+            socket.close(); // unblocks the receiver thread
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void publish(String cacheName, Object key) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        try {
+            socket.send(new DatagramPacket(data, data.length, group, port));
+        } catch (IOException e) {
+            LOGGER.warn("Could not publish invalidation '{}'", message, e);
+        }
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (socket.isClosed())
+                    return;
+                LOGGER.warn("Invalidation bus receive failed", e);
+                continue;
+            }
+
+            String message = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+            String[] parts = message.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || parts[0].equals(nodeId))
+                continue; // malformed, or our own write looping back
+
+            for (Listener listener : listeners) {
+                try {
+                    listener.onInvalidation(parts[1], parts[2].isEmpty() ? null : parts[2]);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Invalidation listener failed on '{}'", message, e);
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.Link;
 import org.springframework.stereotype.Service;
@@ -37,6 +39,7 @@ public class ArticleServiceImpl implements ArticleService
     }
 
     @Override
+    @Cacheable(value = "articles", key = "#id")
     public Article getArticleById(Integer id) {
         Optional<Article> article = articleRepository.findById(id);
         if (article.isPresent())
@@ -68,11 +71,13 @@ public class ArticleServiceImpl implements ArticleService
     }
 
     @Override
+    @CacheEvict(value = "articles", key = "#article.id", condition = "#article.id != null", beforeInvocation = true)
     public Article addArticle(Article article) {
         return articleRepository.save(article);
     }
 
     @Override
+    @CacheEvict(value = "articles", key = "#id")
     public void deleteArticle(Integer id) {
        boolean doesNotExist = getArticleById(id) == null;// This already throws NotFoundException
 
@@ -80,6 +85,7 @@ public class ArticleServiceImpl implements ArticleService
     }
 
     @Override
+    @CacheEvict(value = "articles", key = "#id")
     public Article updateArticle(Integer id, Article article) {
         if (getArticleById(id) == null) // This already throws NotFoundException
             return null;
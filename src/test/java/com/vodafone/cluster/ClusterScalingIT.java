@@ -0,0 +1,265 @@
+package com.vodafone.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vodafone.App;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Starts the app in separate JVMs with the "cluster" profile against one shared H2 database,
+// then measures request throughput with one node and with all nodes, and checks that a
+// write on one node is seen by the others.
+// Runs under failsafe with: mvn -Pcluster-it verify
+// Node count and measuring time can be changed with -Dcluster.nodes and -Dcluster.seconds.
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ClusterScalingIT
+{
+    private static final int NODES = Integer.getInteger("cluster.nodes", 3);
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("cluster.seconds", 10));
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final int CLIENT_THREADS = 8;
+    private static final int SEED_ARTICLES = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @TempDir
+    static Path workDir;
+
+    private static final List<Process> processes = new ArrayList<>();
+    private static final List<String> nodes = new ArrayList<>();
+    private static final List<Integer> seededIds = new ArrayList<>();
+    private static final AtomicInteger names = new AtomicInteger();
+    private static String databaseUrl;
+    private static int multicastPort;
+
+    @BeforeAll
+    static void startFirstNode() throws Exception {
+        databaseUrl = "jdbc:h2:file:" + workDir.resolve("db").toAbsolutePath() + ";AUTO_SERVER=TRUE";
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            multicastPort = socket.getLocalPort();
+        }
+
+        // only the first node creates the schema, the others validate it
+        awaitNodes(List.of(startNode("update")));
+        for (int i = 0; i < SEED_ARTICLES; i++)
+            seededIds.add(addArticle(nodes.get(0)).get("id").asInt());
+    }
+
+    @AfterAll
+    static void stopNodes() throws InterruptedException {
+        for (Process process : processes)
+            process.destroy();
+        for (Process process : processes)
+            if (!process.waitFor(30, TimeUnit.SECONDS))
+                process.destroyForcibly();
+    }
+
+    @Test
+    @Order(1)
+    void throughputScalesFromOneToNNodes() throws Exception {
+        double single = measureThroughput();
+
+        List<String> started = new ArrayList<>();
+        for (int i = 1; i < NODES; i++)
+            started.add(startNode("validate"));
+        awaitNodes(started);
+        double clustered = measureThroughput();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double ratio = clustered / single;
+        System.out.printf("Throughput: 1 node %.0f req/s, %d nodes %.0f req/s (x%.2f, %d cores)%n",
+                single, NODES, clustered, ratio, cores);
+
+        // Nodes can only add throughput when there are cores to run them on
+        assumeTrue(cores >= NODES, String.format("%d cores cannot show scaling to %d nodes", cores, NODES));
+        double expectedRatio = cores >= 2 * NODES ? 1.5 : 1.1;
+        assertTrue(ratio >= expectedRatio,
+                String.format("Expected %d nodes to reach x%.2f of one node's throughput, got x%.2f", NODES, expectedRatio, ratio));
+    }
+
+    @Test
+    @Order(2)
+    void writeOnOneNodeIsSeenByTheOthers() throws Exception {
+        if (nodes.size() < 2) {
+            List<String> started = new ArrayList<>();
+            for (int i = nodes.size(); i < NODES; i++)
+                started.add(startNode("validate"));
+            awaitNodes(started);
+        }
+        String nodeA = nodes.get(0);
+        String nodeB = nodes.get(1);
+
+        JsonNode article = addArticle(nodeA);
+        int id = article.get("id").asInt();
+        assertEquals(article.get("name").asText(), getArticle(nodeB, id).get("name").asText()); // cached on B
+
+        ObjectNode updated = ((ObjectNode) article).put("name", "updated-" + names.incrementAndGet());
+        assertEquals(200, send(nodeA, "PUT", "/v1/articles/" + id, updated).statusCode());
+        assertEquals(updated.get("name").asText(), getArticle(nodeA, id).get("name").asText());
+        awaitName(nodeB, id, updated.get("name").asText());
+
+        // POST with an existing id overwrites the row and must evict it as well
+        assertEquals(updated.get("name").asText(), getArticle(nodeA, id).get("name").asText()); // cached on A
+        ObjectNode overwritten = updated.deepCopy().put("name", "overwritten-" + names.incrementAndGet());
+        assertEquals(201, send(nodeB, "POST", "/v1/articles", overwritten).statusCode());
+        awaitName(nodeA, id, overwritten.get("name").asText());
+    }
+
+    private static double measureThroughput() throws Exception {
+        runLoad(WARM_UP);
+        return runLoad(MEASURE) / (double) MEASURE.toSeconds();
+    }
+
+    // 80% reads, 10% updates and 10% inserts, spread round robin over all running nodes
+    // Any failed request fails the test rather than just lowering the throughput
+    private static long runLoad(Duration duration) throws Exception {
+        AtomicLong completed = new AtomicLong();
+        AtomicInteger next = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENT_THREADS; i++) {
+            results.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    String node = nodes.get(Math.floorMod(next.getAndIncrement(), nodes.size()));
+                    int id = seededIds.get(ThreadLocalRandom.current().nextInt(seededIds.size()));
+                    int op = ThreadLocalRandom.current().nextInt(10);
+                    try {
+                        if (op == 0) {
+                            addArticle(node);
+                        } else if (op == 1) {
+                            ObjectNode article = MAPPER.createObjectNode()
+                                    .put("name", "load-" + names.incrementAndGet()).put("author", "load").put("authorId", 1);
+                            assertSuccess(send(node, "PUT", "/v1/articles/" + id, article));
+                        } else {
+                            assertSuccess(send(node, "GET", "/v1/articles/" + id, null));
+                        }
+                        completed.incrementAndGet();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+        for (Future<?> result : results)
+            result.get();
+        return completed.get();
+    }
+
+    private static void assertSuccess(HttpResponse<String> response) {
+        assertTrue(response.statusCode() / 100 == 2,
+                String.format("%s returned %d: %s", response.request().uri(), response.statusCode(), response.body()));
+    }
+
+    private static JsonNode addArticle(String node) throws IOException, InterruptedException {
+        ObjectNode article = MAPPER.createObjectNode()
+                .put("name", "article-" + names.incrementAndGet()).put("author", "author").put("authorId", 1);
+        HttpResponse<String> response = send(node, "POST", "/v1/articles", article);
+        assertEquals(201, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    private static JsonNode getArticle(String node, int id) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(node, "GET", "/v1/articles/" + id, null);
+        assertEquals(200, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    // Invalidations travel asynchronously, but well within the cache expiry
+    private static void awaitName(String node, int id, String name) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String actual = getArticle(node, id).get("name").asText();
+        while (!name.equals(actual) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            actual = getArticle(node, id).get("name").asText();
+        }
+        assertEquals(name, actual, "Node " + node + " kept a stale article");
+    }
+
+    private static HttpResponse<String> send(String node, String method, String path, JsonNode body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        if (body != null)
+            request.header("Content-Type", "application/json");
+        return HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String startNode(String ddlAuto) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xmx256m", "-cp", classPath, App.class.getName(),
+                "--spring.profiles.active=cluster",
+                "--server.port=" + port,
+                "--spring.datasource.url=" + databaseUrl,
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--cluster.multicast.port=" + multicastPort)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("node-" + port + ".log").toFile());
+        processes.add(builder.start());
+        return "http://localhost:" + port;
+    }
+
+    private static void awaitNodes(List<String> started) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        for (String node : started) {
+            while (true) {
+                try {
+                    if (send(node, "GET", "/v1/hi", null).statusCode() == 200)
+                        break;
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                assertTrue(System.nanoTime() < deadline, "Node " + node + " did not start, see logs in " + workDir);
+                Thread.sleep(500);
+            }
+            nodes.add(node);
+        }
+    }
+}